@@ -0,0 +1,185 @@
+package net.andreinc.aleph;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * Turns what the formatters do into JDK Flight Recorder events (category "Aleph").
+ * The events are only created while a recording has them enabled:
+ *
+ * <pre>
+ *     AlephFormatter.listener(new JfrFormatterListener());
+ * </pre>
+ *
+ * Templates are identified by their first characters, length and hash code, not by their whole text.
+ * By default only parses and renders taking at least 1 ms are recorded, and the lookup and cache
+ * events (emitted for every param) are disabled.
+ *
+ * Needs Java 11 or newer, unlike the rest of the library.
+ */
+public class JfrFormatterListener implements FormatterListener {
+
+    private static final int TEMPLATE_PREFIX_LENGTH = 64;
+
+    @Override
+    public Object parsing(String template) {
+        final ParseEvent event = new ParseEvent();
+        if (!event.isEnabled())
+            return null;
+        event.identify(template);
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void parsed(String template, long nanos, Object started) {
+        if (started instanceof ParseEvent)
+            ((ParseEvent) started).commit();
+    }
+
+    @Override
+    public Object rendering(String template) {
+        final RenderEvent event = new RenderEvent();
+        if (!event.isEnabled())
+            return null;
+        event.identify(template);
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void rendered(String template, long nanos, int length, Object started) {
+        if (started instanceof RenderEvent) {
+            final RenderEvent event = (RenderEvent) started;
+            event.length = length;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void lookedUp(Class<?> type, String methodName, boolean found, long nanos) {
+        final LookupEvent event = new LookupEvent();
+        if (event.isEnabled()) {
+            event.type = type;
+            event.methodName = methodName;
+            event.found = found;
+            event.lookupTime = nanos;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void cacheHit(String template, Cache cache) {
+        cacheEvent(template, cache, true);
+    }
+
+    @Override
+    public void cacheMiss(String template, Cache cache) {
+        cacheEvent(template, cache, false);
+    }
+
+    @Override
+    public void failed(String template, UncheckedFormatterException exception) {
+        final ErrorEvent event = new ErrorEvent();
+        if (event.isEnabled()) {
+            event.identify(template);
+            event.message = exception.getMessage();
+            event.commit();
+        }
+    }
+
+    private static void cacheEvent(String template, Cache cache, boolean hit) {
+        final CacheEvent event = new CacheEvent();
+        if (event.isEnabled()) {
+            event.identify(template);
+            event.cache = cache.name();
+            event.hit = hit;
+            event.commit();
+        }
+    }
+
+    @StackTrace(false)
+    abstract static class TemplateEvent extends Event {
+        @Label("Template")
+        String template;
+
+        @Label("Template Length")
+        int templateLength;
+
+        @Label("Template Hash")
+        int templateHash;
+
+        void identify(String template) {
+            this.template = (template.length() > TEMPLATE_PREFIX_LENGTH) ?
+                    template.substring(0, TEMPLATE_PREFIX_LENGTH) : template;
+            this.templateLength = template.length();
+            this.templateHash = template.hashCode();
+        }
+    }
+
+    @Name("net.andreinc.aleph.Parse")
+    @Label("Template Parse")
+    @Category("Aleph")
+    @StackTrace(false)
+    @Threshold("1 ms")
+    static final class ParseEvent extends TemplateEvent {
+    }
+
+    @Name("net.andreinc.aleph.Render")
+    @Label("Template Render")
+    @Category("Aleph")
+    @StackTrace(false)
+    @Threshold("1 ms")
+    static final class RenderEvent extends TemplateEvent {
+        @Label("Output Length")
+        int length;
+    }
+
+    @Name("net.andreinc.aleph.Lookup")
+    @Label("Method Lookup")
+    @Category("Aleph")
+    @Enabled(false)
+    @StackTrace(false)
+    static final class LookupEvent extends Event {
+        @Label("Type")
+        Class<?> type;
+
+        @Label("Method Name")
+        String methodName;
+
+        @Label("Found")
+        boolean found;
+
+        @Label("Lookup Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long lookupTime;
+    }
+
+    @Name("net.andreinc.aleph.Cache")
+    @Label("Cache Access")
+    @Category("Aleph")
+    @Enabled(false)
+    @StackTrace(false)
+    static final class CacheEvent extends TemplateEvent {
+        @Label("Cache")
+        String cache;
+
+        @Label("Hit")
+        boolean hit;
+    }
+
+    @Name("net.andreinc.aleph.Error")
+    @Label("Formatting Error")
+    @Category("Aleph")
+    @StackTrace(false)
+    static final class ErrorEvent extends TemplateEvent {
+        @Label("Message")
+        String message;
+    }
+}
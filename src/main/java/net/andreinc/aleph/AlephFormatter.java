@@ -5,18 +5,33 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.charset.Charset;
 import java.nio.file.Paths;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static java.lang.Character.isDigit;
 import static java.lang.Character.isLetter;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.System.nanoTime;
 import static java.lang.reflect.Array.get;
 import static java.lang.reflect.Array.getLength;
 import static java.nio.file.Files.readAllBytes;
 import static java.util.Arrays.asList;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
 import static net.andreinc.aleph.AlephFormatter.State.*;
+import static net.andreinc.aleph.FormatterListener.Cache.SEGMENT;
+import static net.andreinc.aleph.FormatterListener.Cache.TEMPLATE;
 import static net.andreinc.aleph.UncheckedFormatterException.*;
 
 public class AlephFormatter {
@@ -52,12 +67,38 @@ public class AlephFormatter {
         ESCAPE_CHAR
     }
 
+    // Markers used inside the curly braces to repeat a part of the template
+    // for every element of a collection:
+    //
+    //      #{*alias:object.method1|separator} ... #{/alias}
+    //
+    private static final char SECTION_START = '*';
+    private static final char SECTION_END = '/';
+    private static final char SECTION_ALIAS = ':';
+    private static final char SECTION_SEPARATOR = '|';
+
+    // A parallel render doesn't split the template in chunks smaller than this
+    // (in segments), the rendering would cost less than handing them to a thread
+    private static final int MIN_SEGMENTS_PER_CHUNK = 64;
+
+    // Chunks per thread, so that a thread getting cheap chunks can help with the rest
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    // Shared by all the formatters, null when nobody listens
+    private static volatile FormatterListener listener;
+
     private final String str;
 
     private final Map<String, Object> arguments = new HashMap<>();
 
     private List<Object> posArguments = new ArrayList<>();
 
+    private List<Segment> segments;
+
+    private boolean incremental = false;
+
+    private Memo[] memos;
+
     private AlephFormatter(String str) {
         this.str = str;
     }
@@ -92,7 +133,15 @@ public class AlephFormatter {
 
     public void failIfArgExists(String argName) {
         if (arguments.containsKey(argName))
-            throw argumentAlreadyExist(argName);
+            throw failed(str, argumentAlreadyExist(argName));
+    }
+
+    // Tells the listener about an error thrown outside fmt()
+    private static UncheckedFormatterException failed(String template, UncheckedFormatterException exception) {
+        final FormatterListener listener = AlephFormatter.listener;
+        if (null != listener)
+            listener.failed(template, exception);
+        return exception;
     }
 
     public static String readFromFile(String strPath, Charset encoding) {
@@ -100,7 +149,8 @@ public class AlephFormatter {
             byte[] encodedBytes = readAllBytes(Paths.get(strPath));
             return new String(encodedBytes, encoding);
         } catch (IOException e) {
-            throw ioExceptionReadingFromFile(strPath, e);
+            // There is no template yet, the listener gets the path instead
+            throw failed(strPath, ioExceptionReadingFromFile(strPath, e));
         }
     }
 
@@ -154,8 +204,18 @@ public class AlephFormatter {
         
     }
     
+    /**
+     * Registers the listener notified by all the formatters, or removes it when <code>null</code>.
+     * Without a listener nothing is measured.
+     */
+    public static void listener(FormatterListener listener) {
+        AlephFormatter.listener = listener;
+    }
+
     public AlephFormatter style(Style style) {
         this.style = style;
+        this.segments = null;
+        this.memos = null;
         return this;
     }
 
@@ -173,10 +233,33 @@ public class AlephFormatter {
         return this;
     }
 
+    /**
+     * Sets the value of an argument, replacing the previous one if it exists.
+     * Meant to be used between two renders of an {@link #incremental()} formatter.
+     */
+    public AlephFormatter update(String argName, Object object) {
+        this.arguments.put(argName, object);
+        return this;
+    }
+
+    /**
+     * Every following {@link #fmt()} remembers the text rendered for each param or section,
+     * together with the values of the arguments it uses. The next {@link #fmt()} re-renders only
+     * the params or sections whose arguments are no longer the same (or equal) and re-uses the
+     * remembered text for the rest.
+     *
+     * The arguments are compared, not inspected, so an argument changed in place is not detected.
+     * Use {@link #update(String, Object)} to give it a new value instead.
+     */
+    public AlephFormatter incremental() {
+        this.incremental = true;
+        return this;
+    }
+
     public AlephFormatter args(Object... args) {
 
         if (args.length % 2 == 1)
-            throw invalidNumberOfArguments(args.length);
+            throw failed(str, invalidNumberOfArguments(args.length));
 
         String key;
 
@@ -192,10 +275,113 @@ public class AlephFormatter {
     /**
      */
     public String fmt() {
+        final FormatterListener listener = AlephFormatter.listener;
+
+        if (null == listener)
+            return render(null);
+
+        final Object started = listener.rendering(str);
+        final long start = nanoTime();
+        try {
+            final String result = render(listener);
+            listener.rendered(str, nanoTime() - start, result.length(), started);
+            return result;
+        } catch (UncheckedFormatterException e) {
+            listener.failed(str, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Same as {@link #fmtParallel(Executor)}, using the common {@link ForkJoinPool}.
+     */
+    public String fmtParallel() {
+        return fmtParallel(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Renders the template in chunks, concurrently on the given executor, and joins them in order.
+     * Meant for very large templates: small ones are rendered on the calling thread.
+     *
+     * The arguments are read from multiple threads and must not change during the render.
+     * Sections are never split, and {@link #incremental()} has no effect on this method.
+     */
+    public String fmtParallel(Executor executor) {
+        final StringBuilder result = new StringBuilder(str.length());
+        fmtParallel(executor, result);
+        return result.toString();
+    }
+
+    /**
+     * Same as {@link #fmtParallel(Executor)}, but every chunk is appended to the sink,
+     * in order, as soon as it is ready.
+     *
+     * When a chunk fails the sink may already hold the text of the chunks before it.
+     */
+    public void fmtParallel(Executor executor, Appendable sink) {
+        final FormatterListener listener = AlephFormatter.listener;
+
+        if (null == listener) {
+            renderParallel(executor, sink, null);
+            return;
+        }
+
+        final Object started = listener.rendering(str);
+        final long start = nanoTime();
+        try {
+            final int length = renderParallel(executor, sink, listener);
+            listener.rendered(str, nanoTime() - start, length, started);
+        } catch (UncheckedFormatterException e) {
+            listener.failed(str, e);
+            throw e;
+        }
+    }
+
+    // Used for the messages of the exceptions, which shouldn't be
+    // counted as renders of the templates that failed
+    String fmtWithoutListener() {
+        return render(null);
+    }
 
-        final StringBuilder result =  new StringBuilder(str.length());
+    private String render(FormatterListener listener) {
+        final StringBuilder result = new StringBuilder(str.length());
+        if (incremental)
+            renderIncremental(compile(listener), result, listener);
+        else
+            renderSegments(compile(listener), null, result);
+        return result.toString();
+    }
+
+    // The template is parsed only once into a list of segments (free text,
+    // params and sections). After that rendering only walks the segments.
+    private List<Segment> compile(FormatterListener listener) {
+        if (null == listener) {
+            if (null == segments)
+                segments = parse();
+            return segments;
+        }
+
+        if (null != segments) {
+            listener.cacheHit(str, TEMPLATE);
+            return segments;
+        }
+
+        listener.cacheMiss(str, TEMPLATE);
+        final Object started = listener.parsing(str);
+        final long start = nanoTime();
+        segments = parse();
+        listener.parsed(str, nanoTime() - start, started);
+        return segments;
+    }
+
+    private List<Segment> parse() {
+
+        final Deque<SectionSegment> openSections = new ArrayDeque<>();
+        final List<Segment> root = new ArrayList<>();
+        final StringBuilder text = new StringBuilder(str.length());
         final StringBuilder param = new StringBuilder(16);
 
+        List<Segment> current = root;
         State state = FREE_TEXT;
 
         int i = 0;
@@ -205,21 +391,31 @@ public class AlephFormatter {
             state = nextState(state, i);
             switch (state) {
                 // In this state we just add the character to the
-                // resulting buffer. No need to perform any processing.
-                case FREE_TEXT : { result.append(chr); break; }
+                // text buffer. No need to perform any processing.
+                case FREE_TEXT : { text.append(chr); break; }
                 // We identify '#'. We skip the following '{'.
                 case PARAM_START:  { i++; break; }
                 // We append the character to the param chain buffer
-                case PARAM: { validateParamChar(chr, i); param.append(chr); break; }
-                // We append and replace the param with the correct value
-                case PARAM_END: { appendParamValue(param, result); break; }
+                case PARAM: { validateParamChar(param, chr, i); param.append(chr); break; }
+                // We add the text collected so far and the param as segments
+                case PARAM_END: {
+                    addText(text, current);
+                    current = addParam(param, root, current, openSections);
+                    param.setLength(0);
+                    break;
+                }
                 // Escape character
                 case ESCAPE_CHAR: break;
             }
             i++;
         }
 
-        return result.toString();
+        if (!openSections.isEmpty())
+            throw unclosedSection(openSections.peek().alias);
+
+        addText(text, current);
+
+        return root;
     }
 
     // The method that is used to change the states depending on the index
@@ -278,55 +474,271 @@ public class AlephFormatter {
         return style.getEscapeCharacter() == fmt.charAt(idx);
     }
 
-    private void validateParamChar(char cc, int idx) {
-        if ( !(isDigit(cc) || isLetter(cc) || '.'== cc) )
-            throw invalidCharacterInParam(cc, idx);
+    private void validateParamChar(StringBuilder param, char cc, int idx) {
+        if (isDigit(cc) || isLetter(cc) || '.'== cc)
+            return;
+        // Section markers are only accepted as the first character
+        if (param.length() == 0 && (SECTION_START == cc || SECTION_END == cc))
+            return;
+        if (param.length() != 0 && SECTION_START == param.charAt(0)) {
+            // Everything after the separator marker is the separator itself
+            if (SECTION_SEPARATOR == cc || contains(param, SECTION_SEPARATOR))
+                return;
+            if (SECTION_ALIAS == cc && !contains(param, SECTION_ALIAS))
+                return;
+        }
+        throw invalidCharacterInParam(cc, idx);
+    }
+
+    private static boolean contains(StringBuilder buff, char cc) {
+        return -1 != buff.indexOf(String.valueOf(cc));
+    }
+
+    private static void addText(StringBuilder text, List<Segment> segments) {
+        if (text.length() == 0)
+            return;
+        segments.add(new TextSegment(text.toString()));
+        text.setLength(0);
+    }
+
+    // This method gets called every time a param is closed. The param can be:
+    //
+    // - A simple argument "#{intVal}" or a method chain "#{address.getLine1.getNumber}"
+    //
+    // - The start of a section "#{*line:order.lines|, }". Everything until the
+    // matching "#{/line}" is rendered once for every element of "order.lines",
+    // the current element being available as "#{line}". The separator (", ")
+    // is optional and it is appended between the elements.
+    //
+    // - The end of a section "#{/line}"
+    //
+    // Returns the list where the following segments should be added.
+    private static List<Segment> addParam(StringBuilder param, List<Segment> root, List<Segment> current,
+                                          Deque<SectionSegment> openSections) {
+
+        if (param == null)
+            throw invalidArgumentName(param);
+
+        if (param.length() != 0 && SECTION_START == param.charAt(0)) {
+            final SectionSegment section = newSection(param);
+            current.add(section);
+            openSections.push(section);
+            return section.body;
+        }
+
+        if (param.length() != 0 && SECTION_END == param.charAt(0)) {
+            final String alias = param.substring(1);
+            if (openSections.isEmpty() || !openSections.peek().alias.equals(alias))
+                throw unexpectedSectionEnd(alias);
+            openSections.pop();
+            return openSections.isEmpty() ? root : openSections.peek().body;
+        }
+
+        current.add(new ParamSegment(param.toString()));
+        return current;
+    }
+
+    // When the alias is missing the elements are available under the last name
+    // in the chain: "#{*order.lines}" can be closed with "#{/lines}".
+    private static SectionSegment newSection(StringBuilder param) {
+        final int separatorIdx = param.indexOf(String.valueOf(SECTION_SEPARATOR));
+
+        final String definition = (-1 == separatorIdx) ? param.substring(1) : param.substring(1, separatorIdx);
+        final String separator = (-1 == separatorIdx) ? "" : param.substring(separatorIdx + 1);
+
+        final int aliasIdx = definition.indexOf(SECTION_ALIAS);
+        final ParamSegment source = new ParamSegment(definition.substring(aliasIdx + 1));
+        final String alias = (-1 == aliasIdx) ? source.chain[source.chain.length - 1] : definition.substring(0, aliasIdx);
+
+        // The elements are looked up by the first name of a chain, so
+        // an alias with dots could never be reached
+        if (alias.isEmpty() || -1 != alias.indexOf('.'))
+            throw invalidSectionAlias(alias);
+
+        return new SectionSegment(alias, source, separator);
+    }
+
+    // Splits "object.method1.method2" into its names.
+    // A trailing dot doesn't introduce an empty method name.
+    private static String[] splitChain(String param) {
+        final List<String> names = new ArrayList<>();
+
+        int from = 0;
+        int dotIdx;
+        while (-1 != (dotIdx = param.indexOf('.', from))) {
+            names.add(param.substring(from, dotIdx));
+            from = dotIdx + 1;
+        }
+
+        if (from < param.length() || names.isEmpty())
+            names.add(param.substring(from));
+
+        return names.toArray(new String[0]);
+    }
+
+    private void renderSegments(List<Segment> segments, Scope scope, StringBuilder result) {
+        for (Segment segment : segments)
+            segment.render(this, scope, result);
+    }
+
+    // Returns the number of characters appended to the sink
+    private int renderParallel(Executor executor, Appendable sink, FormatterListener listener) {
+
+        final List<Segment> segments = compile(listener);
+
+        final int threads = (executor instanceof ForkJoinPool) ?
+                ((ForkJoinPool) executor).getParallelism() : Runtime.getRuntime().availableProcessors();
+        final int chunks = threads * CHUNKS_PER_THREAD;
+        final int chunkSize = max(MIN_SEGMENTS_PER_CHUNK, (segments.size() + chunks - 1) / chunks);
+
+        final List<CompletableFuture<String>> futures = new ArrayList<>();
+        final AtomicBoolean stop = new AtomicBoolean(false);
+        try {
+            // Not worth the threads, we render everything here
+            if (segments.size() <= chunkSize) {
+                final String result = renderChunk(segments, stop);
+                sink.append(result);
+                return result.length();
+            }
+
+            for (int from = 0; from < segments.size(); from += chunkSize) {
+                final List<Segment> chunk = segments.subList(from, min(from + chunkSize, segments.size()));
+                futures.add(supplyAsync(() -> renderChunk(chunk, stop), executor));
+            }
+
+            int length = 0;
+            for (CompletableFuture<String> future : futures) {
+                final String result = future.join();
+                sink.append(result);
+                length += result.length();
+            }
+            return length;
+        } catch (CompletionException e) {
+            // The first failing chunk wins, like it would in a sequential render
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw e;
+        } catch (IOException e) {
+            throw ioExceptionWritingToSink(e);
+        } finally {
+            // Whatever went wrong (a chunk, the sink or the executor refusing a chunk),
+            // the chunks still waiting or rendering are useless from now on.
+            // After a successful render they are all done and this changes nothing.
+            stop.set(true);
+            for (CompletableFuture<String> future : futures)
+                future.cancel(false);
+        }
+    }
+
+    // Gives up (with an incomplete text nobody reads) when another chunk failed
+    private String renderChunk(List<Segment> chunk, AtomicBoolean stop) {
+        final StringBuilder result = new StringBuilder();
+        for (Segment segment : chunk) {
+            if (stop.get())
+                break;
+            segment.render(this, null, result);
+        }
+        return result.toString();
+    }
+
+    // Free text is appended as it is. For the other segments we compare the values of
+    // their arguments with the ones from the previous render and when nothing changed
+    // we append the remembered text, without calling any method from the chains.
+    private void renderIncremental(List<Segment> segments, StringBuilder result, FormatterListener listener) {
+
+        if (null == memos)
+            memos = newMemos(segments);
+
+        for (int i = 0; i < memos.length; i++) {
+            final Memo memo = memos[i];
+
+            if (null == memo) {
+                segments.get(i).render(this, null, result);
+                continue;
+            }
+
+            final Object[] values = new Object[memo.roots.length];
+            for (int j = 0; j < values.length; j++)
+                values[j] = rootValue(memo.roots[j], null);
+
+            if (null != memo.text && Arrays.equals(memo.values, values)) {
+                if (null != listener)
+                    listener.cacheHit(str, SEGMENT);
+                result.append(memo.text);
+                continue;
+            }
+
+            if (null != listener)
+                listener.cacheMiss(str, SEGMENT);
+
+            final int start = result.length();
+            segments.get(i).render(this, null, result);
+            memo.values = values;
+            memo.text = result.substring(start);
+        }
+    }
+
+    private static Memo[] newMemos(List<Segment> segments) {
+        final Memo[] memos = new Memo[segments.size()];
+
+        for (int i = 0; i < memos.length; i++) {
+            final List<ParamSegment> params = new ArrayList<>();
+            segments.get(i).collectRoots(params);
+
+            if (params.isEmpty())
+                continue;
+
+            // One value per argument, even if the argument is used multiple times
+            final Map<String, ParamSegment> roots = new LinkedHashMap<>();
+            for (ParamSegment param : params)
+                roots.putIfAbsent(param.chain[0], param);
+
+            memos[i] = new Memo(roots.values().toArray(new ParamSegment[0]));
+        }
+
+        return memos;
     }
 
     // This methods gets called when we want to obtain the value of the parameter
     //
     // - The parameter can be a simple argument "#{intVal}" and in this case
-    // it is obtained directly from the arguments map.
+    // it is obtained directly from the enclosing sections or from the arguments.
     //
     // - The parameter can be a method chain argument: "#{address.getLine1.getNumber}"
     // in this case it is obtained by calling recursively the methods on the last obtained object
-    private void appendParamValue(StringBuilder param, StringBuilder result) {
+    private Object paramValue(ParamSegment param, Scope scope) {
+        return valueInChain(rootValue(param, scope), param.chain, 1);
+    }
 
-        if (param == null)
-            throw invalidArgumentName(param);
+    private Object rootValue(ParamSegment param, Scope scope) {
+        final String objectName = param.chain[0];
 
-        // Object name is the parameter that should be found in the map.
-        // If it's followed by points, the points remain in the "param" buffer.
-        final String objectName = takeUntilDotOrEnd(param);
+        // The elements of the enclosing sections hide the arguments
+        for (Scope s = scope; s != null; s = s.parent) {
+            if (s.name.equals(objectName))
+                return s.value;
+        }
 
-        // Checks if object is positional parameter or named parameter
         // Positional parameters are always numbers
-        Object objectValue;
-        try {
-            Integer objectIndex = Integer.parseInt(objectName);
+        if (null != param.position) {
             try {
-                objectValue = posArguments.get(objectIndex);
+                return posArguments.get(param.position);
             } catch (IndexOutOfBoundsException e) {
-                throw invalidPositionalArgumentValue(objectIndex);
+                throw invalidPositionalArgumentValue(param.position);
             }
-        } catch(NumberFormatException nex) {
-            // The parameter is not a positional argument
-            objectValue = arguments.get(objectName);
         }
 
-        Object toAppend;
+        return arguments.get(objectName);
+    }
 
-        if (param.length() != 0) {
-            // If this is a chain object.method1.method2.method3
-            // we recurse
-            toAppend = valueInChain(objectValue, param);
-        } else {
-            // We evaluate if the obejct is an array
-            // If it's an array we print it nicely
-            toAppend = evaluateIfArray(objectValue);
+    // Checks if object is positional parameter or named parameter
+    private static Integer positionOf(String objectName) {
+        try {
+            return Integer.parseInt(objectName);
+        } catch(NumberFormatException nex) {
+            // The parameter is not a positional argument
+            return null;
         }
-
-        result.append(toAppend);
     }
 
     private static Object evaluateIfArray(Object o) {
@@ -354,46 +766,24 @@ public class AlephFormatter {
         return buff;
     }
 
-    // This method takes the section until the end of the buff or
-    // until it finds the first dot ".".
-    private static String takeUntilDotOrEnd(StringBuilder buff) {
-
-        final int firstPointIdx = buff.indexOf(".");
-        String result;
-
-        if (-1 == firstPointIdx) {
-            result = buff.toString();
-            buff.setLength(0);
-        } else {
-            result = buff.substring(0, firstPointIdx);
-            buff.delete(0, firstPointIdx + 1);
-        }
-
-        return result;
-    }
-
     // Recursively obtain the value from the method chain by invoking the methods
     // using reflection on the last object obtained.
-    private static Object valueInChain(Object object, StringBuilder paramBuffer) {
+    private static Object valueInChain(Object object, String[] chain, int idx) {
 
         // When last obtained is null or when there are no more methods in the chain
         // we stop
-        if (object == null || paramBuffer.length() == 0) {
-            return evaluateIfArray(object);
+        if (object == null || idx == chain.length) {
+            return object;
         }
 
-        final String methodName = takeUntilDotOrEnd(paramBuffer);
-
-        Object newObject;
         try {
             // Try with the given method or with the getter as a fallback
-            Method method = getMethodOrGetter(object, methodName);
+            Method method = getMethodOrGetter(object, chain[idx]);
 
             if (null == method)
                 return null;
 
-            newObject = method.invoke(object);
-            return valueInChain(newObject, paramBuffer);
+            return valueInChain(method.invoke(object), chain, idx + 1);
         } catch (IllegalAccessException | InvocationTargetException e) {
             // Couldn't invoke the method
             return null;
@@ -401,6 +791,18 @@ public class AlephFormatter {
     }
 
     public static Method getMethodOrGetter(Object object, String methodName) {
+        final FormatterListener listener = AlephFormatter.listener;
+
+        if (null == listener)
+            return findMethodOrGetter(object, methodName);
+
+        final long start = nanoTime();
+        final Method method = findMethodOrGetter(object, methodName);
+        listener.lookedUp(object.getClass(), methodName, null != method, nanoTime() - start);
+        return method;
+    }
+
+    private static Method findMethodOrGetter(Object object, String methodName) {
         Method method;
 
         try {
@@ -418,4 +820,138 @@ public class AlephFormatter {
 
         return method;
     }
+
+    //
+    // A compiled template is a list of segments. Each segment knows
+    // how to append itself to the resulting buffer.
+    //
+    private static abstract class Segment {
+        abstract void render(AlephFormatter formatter, Scope scope, StringBuilder result);
+
+        // Adds the params whose values are taken from the named arguments
+        abstract void collectRoots(List<ParamSegment> roots);
+    }
+
+    // Free text, escape characters already removed
+    private static final class TextSegment extends Segment {
+        private final String text;
+
+        TextSegment(String text) {
+            this.text = text;
+        }
+
+        @Override
+        void render(AlephFormatter formatter, Scope scope, StringBuilder result) {
+            result.append(text);
+        }
+
+        @Override
+        void collectRoots(List<ParamSegment> roots) {
+        }
+    }
+
+    // "#{object.method1.method2}"
+    private static final class ParamSegment extends Segment {
+        private final String[] chain;
+        private final Integer position;
+
+        ParamSegment(String param) {
+            this.chain = splitChain(param);
+            this.position = positionOf(chain[0]);
+        }
+
+        @Override
+        void render(AlephFormatter formatter, Scope scope, StringBuilder result) {
+            // We evaluate if the object is an array
+            // If it's an array we print it nicely
+            result.append(evaluateIfArray(formatter.paramValue(this, scope)));
+        }
+
+        // Positional arguments can't change after the formatter is created
+        @Override
+        void collectRoots(List<ParamSegment> roots) {
+            if (null == position)
+                roots.add(this);
+        }
+    }
+
+    // "#{*alias:object.method1|separator} ... #{/alias}"
+    private static final class SectionSegment extends Segment {
+        private final String alias;
+        private final ParamSegment source;
+        private final String separator;
+        private final List<Segment> body = new ArrayList<>();
+
+        SectionSegment(String alias, ParamSegment source, String separator) {
+            this.alias = alias;
+            this.source = source;
+            this.separator = separator;
+        }
+
+        // Arrays and Iterables are rendered once per element, null is not
+        // rendered at all and any other value is rendered once.
+        @Override
+        void render(AlephFormatter formatter, Scope scope, StringBuilder result) {
+            final Object value = formatter.paramValue(source, scope);
+
+            if (null == value)
+                return;
+
+            if (value.getClass().isArray()) {
+                for (int i = 0; i < getLength(value); ++i)
+                    renderElement(formatter, scope, result, get(value, i), i);
+            } else if (value instanceof Iterable) {
+                int i = 0;
+                for (Object element : (Iterable<?>) value)
+                    renderElement(formatter, scope, result, element, i++);
+            } else {
+                renderElement(formatter, scope, result, value, 0);
+            }
+        }
+
+        private void renderElement(AlephFormatter formatter, Scope scope, StringBuilder result, Object element, int idx) {
+            if (idx > 0)
+                result.append(separator);
+            formatter.renderSegments(body, new Scope(alias, element, scope), result);
+        }
+
+        // The params using the alias take their values from the elements
+        @Override
+        void collectRoots(List<ParamSegment> roots) {
+            source.collectRoots(roots);
+
+            final List<ParamSegment> bodyRoots = new ArrayList<>();
+            for (Segment segment : body)
+                segment.collectRoots(bodyRoots);
+
+            for (ParamSegment param : bodyRoots) {
+                if (!alias.equals(param.chain[0]))
+                    roots.add(param);
+            }
+        }
+    }
+
+    // The elements of the sections currently rendered, innermost first
+    private static final class Scope {
+        private final String name;
+        private final Object value;
+        private final Scope parent;
+
+        Scope(String name, Object value, Scope parent) {
+            this.name = name;
+            this.value = value;
+            this.parent = parent;
+        }
+    }
+
+    // What an incremental render remembers about a segment
+    private static final class Memo {
+        private final ParamSegment[] roots;
+        private Object[] values;
+        private String text;
+
+        Memo(ParamSegment[] roots) {
+            this.roots = roots;
+        }
+    }
 }
@@ -0,0 +1,47 @@
+package net.andreinc.aleph;
+
+/**
+ * Receives what happens inside the formatters, once registered with
+ * {@link AlephFormatter#listener(FormatterListener)}.
+ *
+ * The methods are called from the threads doing the formatting, so implementations
+ * should be thread-safe and fast. All the methods do nothing by default.
+ */
+public interface FormatterListener {
+
+    enum Cache {
+        /** The template parsed into segments, kept by every formatter */
+        TEMPLATE,
+
+        /** The text of a param or section, kept by the incremental formatters */
+        SEGMENT
+    }
+
+    /** A template is about to be parsed, the returned object is given back to {@link #parsed} */
+    default Object parsing(String template) { return null; }
+
+    /** A template was parsed into segments, <code>started</code> is what {@link #parsing} returned */
+    default void parsed(String template, long nanos, Object started) {}
+
+    /** A call to <code>fmt()</code> starts, the returned object is given back to {@link #rendered} */
+    default Object rendering(String template) { return null; }
+
+    /**
+     * A call to <code>fmt()</code> ended, <code>nanos</code> includes parsing the template (if needed)
+     * and <code>started</code> is what {@link #rendering} returned. Not called when the render fails.
+     */
+    default void rendered(String template, long nanos, int length, Object started) {}
+
+    /** A method from a chain was looked up using reflection */
+    default void lookedUp(Class<?> type, String methodName, boolean found, long nanos) {}
+
+    default void cacheHit(String template, Cache cache) {}
+
+    default void cacheMiss(String template, Cache cache) {}
+
+    /**
+     * The formatter failed (in <code>fmt()</code>, while receiving arguments or while reading the template from a file)
+     * with the given exception, which is thrown afterwards. When reading a file fails, <code>template</code> is the path.
+     */
+    default void failed(String template, UncheckedFormatterException exception) {}
+}
@@ -17,6 +17,9 @@ public class UncheckedFormatterException extends RuntimeException {
     private static final String IO_EXCEPTION_READING_FROM_FILE =
             "Error accessing #{strPath}. Exception:";
 
+    private static final String IO_EXCEPTION_WRITING_TO_SINK =
+            "Error writing the formatted text. Exception:";
+
     private static final String INVALID_ARGUMENT_NAME_NULL_OR_EMPTY =
             "Invalid argument name: '#{arg}'. Argument should not be null or empty";
 
@@ -29,6 +32,15 @@ public class UncheckedFormatterException extends RuntimeException {
     public static final String INVALID_POSITIONAL_ARGUMENTS =
             "Calling 'posArgs()' with null (or no arguments) is not accepted.";
 
+    public static final String UNCLOSED_SECTION =
+            "Section '#{alias}' is never closed. Every section needs a matching end.";
+
+    public static final String UNEXPECTED_SECTION_END =
+            "Unexpected end of section '#{alias}'. There is no open section with this name.";
+
+    public static final String INVALID_SECTION_ALIAS =
+            "Invalid section alias: '#{alias}'. The alias should not be empty or contain '.'.";
+
     public UncheckedFormatterException() {
         super();
     }
@@ -45,41 +57,60 @@ public class UncheckedFormatterException extends RuntimeException {
     }
 
     public static UncheckedFormatterException invalidNumberOfArguments(int argsNum) {
-        String msg = AlephFormatter.str(INVALID_NUMBER_OF_ARGUMENTS).arg("argsNum", argsNum).fmt();
+        String msg = AlephFormatter.str(INVALID_NUMBER_OF_ARGUMENTS).arg("argsNum", argsNum).fmtWithoutListener();
         return new UncheckedFormatterException(msg);
     }
 
     public static UncheckedFormatterException argumentAlreadyExist(String arg) {
-        String msg = AlephFormatter.str(ARGUMENT_ALREADY_DEFINED).arg("arg", arg).fmt();
+        String msg = AlephFormatter.str(ARGUMENT_ALREADY_DEFINED).arg("arg", arg).fmtWithoutListener();
         return new UncheckedFormatterException(msg);
     }
 
     public static UncheckedFormatterException invalidCharacterInParam(char c, int idx) {
-        String msg = AlephFormatter.str(INVALID_CHARACTER_IN_PARAM_NAME).args("char", c, "idx", idx).fmt();
+        String msg = AlephFormatter.str(INVALID_CHARACTER_IN_PARAM_NAME).args("char", c, "idx", idx).fmtWithoutListener();
         return new UncheckedFormatterException(msg);
     }
 
     public static UncheckedFormatterException ioExceptionReadingFromFile(String strPath, Throwable t) {
         String msg = AlephFormatter.str(IO_EXCEPTION_READING_FROM_FILE).arg("strPath", strPath)
-                        .fmt();
+                        .fmtWithoutListener();
         return new UncheckedFormatterException(msg, t);
     }
 
+    public static UncheckedFormatterException ioExceptionWritingToSink(Throwable t) {
+        return new UncheckedFormatterException(IO_EXCEPTION_WRITING_TO_SINK, t);
+    }
+
     public static UncheckedFormatterException invalidArgumentName(Object argName) {
         String msg = AlephFormatter.str(INVALID_ARGUMENT_NAME_NULL_OR_EMPTY, "arg", argName)
-                        .fmt();
+                        .fmtWithoutListener();
         return new UncheckedFormatterException(msg);
     }
 
     public static UncheckedFormatterException invalidStateException(AlephFormatter.State state) {
         String msg = AlephFormatter.str(INVALID_STATE_EXCEPTION, "state", state)
-                        .fmt();
+                        .fmtWithoutListener();
         return new UncheckedFormatterException(msg);
     }
 
     public static UncheckedFormatterException invalidPositionalArgumentValue(Integer index) {
         String msg = AlephFormatter.str(INVALID_POSITIONAL_ARGUMENT, "index", index)
-                        .fmt();
+                        .fmtWithoutListener();
+        return new UncheckedFormatterException(msg);
+    }
+
+    public static UncheckedFormatterException unclosedSection(String alias) {
+        String msg = AlephFormatter.str(UNCLOSED_SECTION).arg("alias", alias).fmtWithoutListener();
+        return new UncheckedFormatterException(msg);
+    }
+
+    public static UncheckedFormatterException unexpectedSectionEnd(String alias) {
+        String msg = AlephFormatter.str(UNEXPECTED_SECTION_END).arg("alias", alias).fmtWithoutListener();
+        return new UncheckedFormatterException(msg);
+    }
+
+    public static UncheckedFormatterException invalidSectionAlias(String alias) {
+        String msg = AlephFormatter.str(INVALID_SECTION_ALIAS).arg("alias", alias).fmtWithoutListener();
         return new UncheckedFormatterException(msg);
     }
 }
@@ -8,11 +8,21 @@ import net.andreinc.aleph.AlephFormatter.Styles;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class AlephFormatterTest {
 
@@ -172,4 +182,238 @@ public class AlephFormatterTest {
                 .fmt();
         assertTrue(result.equals("A B @$c$")); 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSection() throws Exception {
+        List<Person> people = Arrays.asList(new Person("A", "B", 20), new Person("C", "D", 30));
+        String result = AlephFormatter
+                .str("People: #{*p:people|, }#{p.name}(#{p.age})#{/p}.")
+                .arg("people", people)
+                .fmt();
+        assertTrue("People: A(20), C(30).".equals(result));
+    }
+
+    @Test
+    public void testSectionWithoutAliasAndSeparator() throws Exception {
+        int[] arr = {1, 3, 4};
+        String result = AlephFormatter.str("#{*a}<#{a}>#{/a}").arg("a", arr).fmt();
+        assertTrue("<1><3><4>".equals(result));
+    }
+
+    @Test
+    public void testNestedSections() throws Exception {
+        List<List<String>> rows = Arrays.asList(Arrays.asList("a", "b"), Arrays.asList("c"));
+        String result = AlephFormatter
+                .str("#{*row:rows|\n}#{0}#{*cell:row|, }#{cell}#{/cell}#{/row}", "|")
+                .arg("rows", rows)
+                .fmt();
+        assertTrue("|a, b\n|c".equals(result));
+    }
+
+    @Test
+    public void testSectionWithNullOrEmpty() throws Exception {
+        String result = AlephFormatter
+                .str("[#{*x:a}#{x}#{/x}][#{*y:b}#{y}#{/y}]")
+                .args("a", null, "b", new String[]{})
+                .fmt();
+        assertTrue("[][]".equals(result));
+    }
+
+    @Test(expected = UncheckedFormatterException.class)
+    public void testUnclosedSection() throws Exception {
+        AlephFormatter.str("#{*x:a}#{x}").arg("a", new int[]{1}).fmt();
+    }
+
+    @Test
+    public void testInvalidSectionAlias() throws Exception {
+        String[] templates = { "#{*a.b:xs}#{a.b}#{/a.b}", "#{*}#{/}", "#{*:xs}#{/}" };
+        for (String template : templates) {
+            try {
+                AlephFormatter.str(template).arg("xs", new int[]{1}).fmt();
+                fail("Expected the alias to be rejected: " + template);
+            } catch (UncheckedFormatterException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test(expected = UncheckedFormatterException.class)
+    public void testUnexpectedSectionEnd() throws Exception {
+        AlephFormatter.str("#{*x:a}#{x}#{/y}").arg("a", new int[]{1}).fmt();
+    }
+
+    @Test
+    public void testIncrementalReusesUnchangedParams() throws Exception {
+        Counter counter = new Counter();
+        AlephFormatter formatter = AlephFormatter
+                .str("#{c.next}/#{a}")
+                .args("c", counter, "a", 1)
+                .incremental();
+
+        assertTrue("1/1".equals(formatter.fmt()));
+        assertTrue("1/2".equals(formatter.update("a", 2).fmt()));
+        assertEquals(1, counter.calls);
+
+        assertTrue("2/2".equals(formatter.update("c", new Counter(1)).fmt()));
+    }
+
+    @Test
+    public void testIncrementalSection() throws Exception {
+        Counter counter = new Counter();
+        AlephFormatter formatter = AlephFormatter
+                .str("#{*x:xs|,}#{x}#{c.next}#{/x} #{a}")
+                .args("xs", Arrays.asList("a", "b"), "c", counter, "a", 1)
+                .incremental();
+
+        assertTrue("a1,b2 1".equals(formatter.fmt()));
+        assertTrue("a1,b2 2".equals(formatter.update("a", 2).fmt()));
+        assertTrue("c3 2".equals(formatter.update("xs", Arrays.asList("c")).fmt()));
+        assertEquals(3, counter.calls);
+    }
+
+    @Test
+    public void testListener() throws Exception {
+        final List<String> events = new ArrayList<>();
+        AlephFormatter.listener(new FormatterListener() {
+            @Override public void parsed(String template, long nanos, Object started) { events.add("parsed"); }
+            @Override public void rendered(String template, long nanos, int length, Object started) { events.add("rendered " + length); }
+            @Override public void lookedUp(Class<?> type, String methodName, boolean found, long nanos) { events.add("lookedUp " + methodName + " " + found); }
+            @Override public void cacheHit(String template, Cache cache) { events.add("hit " + cache); }
+            @Override public void cacheMiss(String template, Cache cache) { events.add("miss " + cache); }
+            @Override public void failed(String template, UncheckedFormatterException exception) { events.add("failed"); }
+        });
+        try {
+            AlephFormatter formatter = AlephFormatter.str("#{p.name}#{p.none}").arg("p", new Person("A", "B", 20));
+            formatter.fmt();
+            formatter.fmt();
+            assertEquals(Arrays.asList(
+                    "miss TEMPLATE", "parsed", "lookedUp name true", "lookedUp none false", "rendered 5",
+                    "hit TEMPLATE", "lookedUp name true", "lookedUp none false", "rendered 5"), events);
+
+            events.clear();
+            try {
+                AlephFormatter.str("#{a$}").fmt();
+            } catch (UncheckedFormatterException e) {
+                // expected
+            }
+            assertEquals(Arrays.asList("miss TEMPLATE", "failed"), events);
+
+            events.clear();
+            try {
+                AlephFormatter.str("#{a}").arg("a", 1).arg("a", 2);
+            } catch (UncheckedFormatterException e) {
+                // expected
+            }
+            assertEquals(Arrays.asList("failed"), events);
+
+            events.clear();
+            try {
+                AlephFormatter.file("/missing/" + UUID.randomUUID());
+            } catch (UncheckedFormatterException e) {
+                // expected
+            }
+            assertEquals(Arrays.asList("failed"), events);
+        } finally {
+            AlephFormatter.listener(null);
+        }
+    }
+
+    @Test
+    public void testParallel() throws Exception {
+        StringBuilder template = new StringBuilder();
+        for (int i = 0; i < 10000; i++)
+            template.append("#{p.name}-#{0}-#{n} ");
+
+        AlephFormatter formatter = AlephFormatter.str(template.toString(), "X")
+                .args("p", new Person("A", "B", 20), "n", 1);
+
+        String expected = formatter.fmt();
+        assertEquals(expected, formatter.fmtParallel());
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            StringWriter sink = new StringWriter();
+            formatter.fmtParallel(executor, sink);
+            assertEquals(expected, sink.toString());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = UncheckedFormatterException.class)
+    public void testParallelWithInvalidPositionalArgument() throws Exception {
+        StringBuilder template = new StringBuilder();
+        StringBuilder rendered = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            template.append("#{0} ");
+            rendered.append("X ");
+        }
+        template.append("#{1}");
+
+        AlephFormatter formatter = AlephFormatter.str(template.toString(), "X");
+
+        StringWriter sink = new StringWriter();
+        try {
+            formatter.fmtParallel(ForkJoinPool.commonPool(), sink);
+            fail("Expected the missing positional argument to fail the render");
+        } catch (UncheckedFormatterException e) {
+            // Only the chunks before the failing one were written
+            assertTrue(rendered.toString().startsWith(sink.toString()));
+        }
+
+        formatter.fmtParallel();
+    }
+
+    @Test
+    public void testIncrementalEmptySection() throws Exception {
+        String template = "#{*x:xs}#{1}#{/x}ok";
+        String expected = AlephFormatter.str(template, "P").arg("xs", Collections.emptyList()).fmt();
+        AlephFormatter formatter = AlephFormatter.str(template, "P").arg("xs", Collections.emptyList()).incremental();
+        assertEquals(expected, formatter.fmt());
+        assertEquals(expected, formatter.fmt());
+    }
+
+    @Test
+    public void testParallelStopsChunksWhenExecutorRejects() throws Exception {
+        StringBuilder template = new StringBuilder();
+        for (int i = 0; i < 10000; i++)
+            template.append("#{c.next} ");
+
+        Counter counter = new Counter();
+        AlephFormatter formatter = AlephFormatter.str(template.toString()).arg("c", counter);
+
+        // Accepts the first chunk without running it, refuses the others
+        final List<Runnable> accepted = new ArrayList<>();
+        Executor executor = task -> {
+            if (!accepted.isEmpty())
+                throw new RejectedExecutionException();
+            accepted.add(task);
+        };
+
+        try {
+            formatter.fmtParallel(executor);
+            fail("Expected the executor to refuse the second chunk");
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+
+        for (Runnable task : accepted)
+            task.run();
+        assertEquals(0, counter.calls);
+    }
+
+    public static class Counter {
+        private int calls;
+
+        public Counter() {
+        }
+
+        public Counter(int calls) {
+            this.calls = calls;
+        }
+
+        public int next() {
+            return ++calls;
+        }
+    }
+}
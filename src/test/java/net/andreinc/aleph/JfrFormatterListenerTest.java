@@ -0,0 +1,94 @@
+package net.andreinc.aleph;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class JfrFormatterListenerTest {
+
+    private static final String PARSE = "net.andreinc.aleph.Parse";
+    private static final String RENDER = "net.andreinc.aleph.Render";
+    private static final String ERROR = "net.andreinc.aleph.Error";
+
+    @Test
+    public void testEvents() throws Exception {
+        StringBuilder template = new StringBuilder();
+        for (int i = 0; i < 20; i++)
+            template.append("#{a}-#{b} ");
+
+        Path file = Files.createTempFile("aleph", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(PARSE).withoutThreshold();
+            recording.enable(RENDER).withoutThreshold();
+            recording.enable(ERROR);
+            recording.start();
+
+            AlephFormatter.listener(new JfrFormatterListener());
+            try {
+                AlephFormatter.str(template.toString()).args("a", "A", "b", "B").fmt();
+                try {
+                    AlephFormatter.str("#{a$}").fmt();
+                } catch (UncheckedFormatterException e) {
+                    // expected
+                }
+            } finally {
+                AlephFormatter.listener(null);
+            }
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> parses = new ArrayList<>();
+        List<RecordedEvent> renders = new ArrayList<>();
+        List<RecordedEvent> errors = new ArrayList<>();
+        try {
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                String name = event.getEventType().getName();
+                if (PARSE.equals(name)) parses.add(event);
+                if (RENDER.equals(name)) renders.add(event);
+                if (ERROR.equals(name)) errors.add(event);
+            }
+        } finally {
+            Files.delete(file);
+        }
+
+        // The failing template is neither parsed nor rendered completely
+        assertEquals(1, parses.size());
+        assertEquals(1, renders.size());
+        assertEquals(1, errors.size());
+
+        RecordedEvent parse = parses.get(0);
+        RecordedEvent render = renders.get(0);
+        RecordedEvent error = errors.get(0);
+
+        // Only a prefix of the template is recorded
+        String expected = template.toString();
+        for (RecordedEvent event : new RecordedEvent[]{ parse, render }) {
+            assertEquals(expected.substring(0, 64), event.getString("template"));
+            assertEquals(expected.length(), event.getInt("templateLength"));
+            assertEquals(expected.hashCode(), event.getInt("templateHash"));
+            assertNull(event.getStackTrace());
+        }
+        assertEquals(80, render.getInt("length"));
+
+        // Timed with begin()/commit(): the parse happens during the render
+        assertTrue(!render.getStartTime().isAfter(parse.getStartTime()));
+        assertTrue(!render.getEndTime().isBefore(parse.getEndTime()));
+        assertTrue(render.getDuration().toNanos() > 0);
+
+        assertEquals("#{a$}", error.getString("template"));
+        assertTrue(error.getString("message").startsWith("Invalid character '$'"));
+        assertNull(error.getStackTrace());
+    }
+}